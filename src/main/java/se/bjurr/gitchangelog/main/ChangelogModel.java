@@ -0,0 +1,78 @@
+package se.bjurr.gitchangelog.main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import se.bjurr.gitchangelog.api.model.Changelog;
+
+/**
+ * The resolved {@link Changelog} together with what is known about its integration data. If
+ * integrations did not finish, the issues have no data from the skipped integrations. The semantic
+ * versions are resolved with the version patterns given when the model was exported, they are
+ * empty in models exported without them.
+ */
+public class ChangelogModel {
+  private final Changelog changelog;
+  private final boolean integrationsIncomplete;
+  private final List<String> skippedIntegrations;
+  private final String highestVersion;
+  private final String highestVersionTag;
+  private final String nextVersion;
+  private final String currentVersion;
+
+  public ChangelogModel(
+      final Changelog changelog,
+      final boolean integrationsIncomplete,
+      final List<String> skippedIntegrations) {
+    this(changelog, integrationsIncomplete, skippedIntegrations, null, null, null, null);
+  }
+
+  public ChangelogModel(
+      final Changelog changelog,
+      final boolean integrationsIncomplete,
+      final List<String> skippedIntegrations,
+      final String highestVersion,
+      final String highestVersionTag,
+      final String nextVersion,
+      final String currentVersion) {
+    this.changelog = changelog;
+    this.integrationsIncomplete = integrationsIncomplete;
+    this.skippedIntegrations = new ArrayList<>(skippedIntegrations);
+    this.highestVersion = highestVersion;
+    this.highestVersionTag = highestVersionTag;
+    this.nextVersion = nextVersion;
+    this.currentVersion = currentVersion;
+  }
+
+  public Changelog getChangelog() {
+    return this.changelog;
+  }
+
+  public boolean isIntegrationsIncomplete() {
+    return this.integrationsIncomplete;
+  }
+
+  public List<String> getSkippedIntegrations() {
+    if (this.skippedIntegrations == null) {
+      return new ArrayList<>();
+    }
+    return this.skippedIntegrations;
+  }
+
+  public Optional<String> getHighestVersion() {
+    return Optional.ofNullable(this.highestVersion);
+  }
+
+  /** Empty string if the highest version is not tagged. */
+  public Optional<String> getHighestVersionTag() {
+    return Optional.ofNullable(this.highestVersionTag);
+  }
+
+  public Optional<String> getNextVersion() {
+    return Optional.ofNullable(this.nextVersion);
+  }
+
+  public Optional<String> getCurrentVersion() {
+    return Optional.ofNullable(this.currentVersion);
+  }
+}
@@ -0,0 +1,65 @@
+package se.bjurr.gitchangelog.main;
+
+import com.google.gson.Gson;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes the resolved {@link ChangelogModel}. The model is stored as compact JSON, gzip
+ * compressed if the file name ends with {@value #GZIP_SUFFIX}.
+ */
+public final class ChangelogModelFile {
+  private static final String GZIP_SUFFIX = ".gz";
+
+  private ChangelogModelFile() {}
+
+  public static void write(final ChangelogModel model, final File file) throws IOException {
+    try (Tracing.Span span = Tracing.span("model write", file.getPath());
+        OutputStream out = openOutput(file);
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+      new Gson().toJson(model, writer);
+    }
+  }
+
+  public static ChangelogModel read(final File file) throws IOException {
+    try (Tracing.Span span = Tracing.span("model read", file.getPath());
+        InputStream in = openInput(file);
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+      final ChangelogModel model = new Gson().fromJson(reader, ChangelogModel.class);
+      if (model == null || model.getChangelog() == null) {
+        throw new IOException("No changelog model found in " + file.getAbsolutePath());
+      }
+      return model;
+    }
+  }
+
+  private static OutputStream openOutput(final File file) throws IOException {
+    final OutputStream out = Files.newOutputStream(file.toPath());
+    if (isGzip(file)) {
+      return new GZIPOutputStream(out);
+    }
+    return out;
+  }
+
+  private static InputStream openInput(final File file) throws IOException {
+    final InputStream in = Files.newInputStream(file.toPath());
+    if (isGzip(file)) {
+      return new GZIPInputStream(in);
+    }
+    return in;
+  }
+
+  private static boolean isGzip(final File file) {
+    return file.getName().endsWith(GZIP_SUFFIX);
+  }
+}
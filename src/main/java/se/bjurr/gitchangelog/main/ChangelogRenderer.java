@@ -0,0 +1,179 @@
+package se.bjurr.gitchangelog.main;
+
+import com.github.jknack.handlebars.Context;
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Helper;
+import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.io.FileTemplateLoader;
+import com.google.gson.Gson;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import se.bjurr.gitchangelog.api.helpers.Helpers;
+import se.bjurr.gitchangelog.api.model.Changelog;
+
+/**
+ * Renders templates from an already resolved {@link Changelog}, without touching git or any
+ * integration. Helpers are registered the same way as when rendering with the API.
+ */
+public class ChangelogRenderer {
+  private final Handlebars handlebars;
+  private final Map<String, Object> extendedVariables;
+  private final List<String> javascriptHelpers;
+
+  public ChangelogRenderer(
+      final String templateBaseDir,
+      final String templateSuffix,
+      final List<String> javascriptHelpers,
+      final Map<String, Object> extendedVariables)
+      throws Exception {
+    if (templateBaseDir == null || templateBaseDir.trim().isEmpty()) {
+      this.handlebars = new Handlebars();
+    } else {
+      this.handlebars = new Handlebars(new FileTemplateLoader(templateBaseDir, templateSuffix));
+    }
+    for (final Entry<String, Helper<?>> helper : Helpers.ALL.entrySet()) {
+      this.handlebars.registerHelper(helper.getKey(), helper.getValue());
+    }
+    for (final String javascriptHelper : javascriptHelpers) {
+      this.handlebars.registerHelpers("helpers.js", javascriptHelper);
+    }
+    this.extendedVariables = extendedVariables;
+    this.javascriptHelpers = javascriptHelpers;
+  }
+
+  /** Everything, except template and model, that changes what is rendered. */
+  public String getFingerprint() {
+    return new Gson().toJson(new TreeMap<>(this.extendedVariables))
+        + new Gson().toJson(this.javascriptHelpers);
+  }
+
+  /**
+   * @param detail what is rendered, like template or output file, shown in traces.
+   */
+  public String render(final String templateContent, final Changelog changelog, final String detail)
+      throws IOException {
+    return this.apply(this.compile(templateContent, detail), changelog, detail);
+  }
+
+  public Template compile(final String templateContent, final String detail) throws IOException {
+    try (Tracing.Span span = Tracing.span("template compile", detail)) {
+      return this.handlebars.compileInline(templateContent);
+    }
+  }
+
+  /** Renders with any model, like a part of the changelog, as root context. */
+  public String apply(final Template template, final Object model, final String detail)
+      throws IOException {
+    final Context context = Context.newBuilder(model).combine(this.extendedVariables).build();
+    try (Tracing.Span span = Tracing.span("template render", detail)) {
+      return template.apply(context);
+    } finally {
+      context.destroy();
+    }
+  }
+
+  /** Renders every template, in parallel if possible, from the same changelog. */
+  public void renderAll(
+      final List<TemplateOutput> templateOutputs, final Changelog changelog, final Charset encoding)
+      throws Exception {
+    final List<Callable<Void>> tasks = new ArrayList<>();
+    for (final TemplateOutput templateOutput : templateOutputs) {
+      tasks.add(
+          () -> {
+            final String output = templateOutput.getOutput().getPath();
+            final String content =
+                this.apply(
+                    this.compile(
+                        readTemplate(templateOutput.getTemplate()), templateOutput.getTemplate()),
+                    changelog,
+                    output);
+            try (Tracing.Span span = Tracing.span("file output", output)) {
+              Files.write(templateOutput.getOutput().toPath(), content.getBytes(encoding));
+            }
+            return null;
+          });
+    }
+    this.runAll(tasks);
+  }
+
+  /**
+   * Runs render tasks in parallel, or one by one if JavaScript helpers are registered. The
+   * JavaScript engine that runs them is not thread safe.
+   */
+  public void runAll(final List<Callable<Void>> tasks) throws Exception {
+    if (this.javascriptHelpers.isEmpty()) {
+      inParallel(tasks);
+    } else {
+      for (final Callable<Void> task : tasks) {
+        task.call();
+      }
+    }
+  }
+
+  /** Runs the tasks on one thread per processor and rethrows the first failure. */
+  private static void inParallel(final List<Callable<Void>> tasks) throws Exception {
+    final int threads =
+        Math.max(1, Math.min(tasks.size(), Runtime.getRuntime().availableProcessors()));
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<Void>> rendered = new ArrayList<>();
+      for (final Callable<Void> task : tasks) {
+        rendered.add(executor.submit(task));
+      }
+      for (final Future<Void> future : rendered) {
+        try {
+          future.get();
+        } catch (final ExecutionException e) {
+          if (e.getCause() instanceof Exception) {
+            throw (Exception) e.getCause();
+          }
+          throw e;
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** If the template is a file, or on the classpath. */
+  public static boolean templateExists(final String templatePath) {
+    return new File(templatePath).isFile()
+        || ChangelogRenderer.class.getClassLoader().getResource(templatePath) != null;
+  }
+
+  /** Reads template from file system, or from classpath if no such file exists. */
+  public static String readTemplate(final String templatePath) throws IOException {
+    final File file = new File(templatePath);
+    if (file.exists()) {
+      return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+    try (InputStream in =
+        ChangelogRenderer.class.getClassLoader().getResourceAsStream(templatePath)) {
+      if (in == null) {
+        throw new IOException("Cannot find template " + templatePath);
+      }
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+}
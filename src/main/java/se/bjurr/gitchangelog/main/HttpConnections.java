@@ -0,0 +1,33 @@
+package se.bjurr.gitchangelog.main;
+
+/**
+ * Configures the JDK HTTP client, {@link java.net.HttpURLConnection}, that some integrations, like
+ * Jira and Redmine, connect with. Integrations using other HTTP clients are not affected. Must be
+ * invoked before the first connection is opened, the JDK reads these properties only once.
+ * Properties already given to the JVM, with {@code -D}, are not overridden.
+ */
+public final class HttpConnections {
+  private static final String CONNECT_TIMEOUT = "sun.net.client.defaultConnectTimeout";
+  private static final String READ_TIMEOUT = "sun.net.client.defaultReadTimeout";
+
+  private HttpConnections() {}
+
+  /**
+   * Limits how long connecting to, and waiting for, an integration may take per request. Applies
+   * to connections where no explicit timeout is set.
+   */
+  public static void timeout(final int timeoutSeconds) {
+    if (timeoutSeconds < 1) {
+      throw new IllegalArgumentException("Timeout must be at least 1 second");
+    }
+    final String timeoutMillis = Integer.toString(timeoutSeconds * 1000);
+    setIfAbsent(CONNECT_TIMEOUT, timeoutMillis);
+    setIfAbsent(READ_TIMEOUT, timeoutMillis);
+  }
+
+  private static void setIfAbsent(final String key, final String value) {
+    if (System.getProperty(key) == null) {
+      System.setProperty(key, value);
+    }
+  }
+}
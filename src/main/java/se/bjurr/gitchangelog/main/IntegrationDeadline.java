@@ -0,0 +1,94 @@
+package se.bjurr.gitchangelog.main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import se.bjurr.gitchangelog.api.model.Changelog;
+import se.bjurr.gitchangelog.internal.settings.Settings;
+
+/**
+ * Resolves the changelog, with integrations, within a deadline. A tracker that does not respond
+ * in time is abandoned, it runs on a daemon thread so it does not keep the process alive.
+ */
+public final class IntegrationDeadline {
+  private IntegrationDeadline() {}
+
+  /**
+   * The changelog with integrations if it is resolved within the deadline. Otherwise the changelog
+   * from {@code withoutIntegrations}, marked as incomplete with {@code integrations} skipped. The
+   * abandoned integrations may still be running, so {@code withoutIntegrations} should not use
+   * the same API.
+   */
+  public static ChangelogModel resolve(
+      final Callable<Changelog> withIntegrations,
+      final Callable<Changelog> withoutIntegrations,
+      final List<String> integrations,
+      final int deadlineSeconds)
+      throws Exception {
+    final Optional<Changelog> changelog = within(withIntegrations, deadlineSeconds);
+    if (changelog.isPresent()) {
+      return new ChangelogModel(changelog.get(), false, new ArrayList<>());
+    }
+    return new ChangelogModel(withoutIntegrations.call(), true, integrations);
+  }
+
+  public static Optional<Changelog> within(
+      final Callable<Changelog> changelogWithIntegrations, final int deadlineSeconds)
+      throws Exception {
+    if (deadlineSeconds < 1) {
+      throw new IllegalArgumentException("Deadline must be at least 1 second");
+    }
+    final ExecutorService executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              final Thread thread = new Thread(runnable, "git-changelog-integrations");
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      final Future<Changelog> changelog = executor.submit(changelogWithIntegrations);
+      try {
+        return Optional.of(changelog.get(deadlineSeconds, TimeUnit.SECONDS));
+      } catch (final TimeoutException e) {
+        changelog.cancel(true);
+        return Optional.empty();
+      } catch (final ExecutionException e) {
+        if (e.getCause() instanceof Exception) {
+          throw (Exception) e.getCause();
+        }
+        throw e;
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** Integrations that have a server configured, from arguments or settings file. */
+  public static List<String> configuredIntegrations(final Settings settings) {
+    final List<String> integrations = new ArrayList<>();
+    if (isGiven(settings.getJiraServer())) {
+      integrations.add("Jira");
+    }
+    if (isGiven(settings.getRedmineServer())) {
+      integrations.add("Redmine");
+    }
+    if (isGiven(settings.getGitHubApi())) {
+      integrations.add("GitHub");
+    }
+    if (isGiven(settings.getGitLabServer())) {
+      integrations.add("GitLab");
+    }
+    return integrations;
+  }
+
+  private static boolean isGiven(final Optional<String> value) {
+    return value.filter(it -> !it.trim().isEmpty()).isPresent();
+  }
+}
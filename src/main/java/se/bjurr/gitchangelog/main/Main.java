@@ -2,10 +2,12 @@ package se.bjurr.gitchangelog.main;
 
 import static se.bjurr.gitchangelog.api.GitChangelogApi.gitChangelogApiBuilder;
 import static se.bjurr.gitchangelog.api.GitChangelogApiConstants.DEFAULT_DATEFORMAT;
+import static se.bjurr.gitchangelog.api.GitChangelogApiConstants.ZERO_COMMIT;
 import static se.bjurr.gitchangelog.internal.settings.Settings.defaultSettings;
 import static se.softhouse.jargo.Arguments.enumArgument;
 import static se.softhouse.jargo.Arguments.fileArgument;
 import static se.softhouse.jargo.Arguments.helpArgument;
+import static se.softhouse.jargo.Arguments.integerArgument;
 import static se.softhouse.jargo.Arguments.optionArgument;
 import static se.softhouse.jargo.Arguments.stringArgument;
 import static se.softhouse.jargo.CommandLineParser.withArguments;
@@ -19,14 +21,18 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 import se.bjurr.gitchangelog.api.GitChangelogApi;
 import se.bjurr.gitchangelog.api.GitChangelogApiConstants;
 import se.bjurr.gitchangelog.api.InclusivenessStrategy;
-import se.bjurr.gitchangelog.internal.semantic.SemanticVersion;
+import se.bjurr.gitchangelog.api.model.Changelog;
 import se.bjurr.gitchangelog.internal.settings.Settings;
 import se.softhouse.jargo.Argument;
 import se.softhouse.jargo.ArgumentException;
@@ -92,6 +98,15 @@ public class Main {
   public static final String PARAM_GITLABSERVER = "-gls";
   public static final String PARAM_GITLABPROJECTNAME = "-glpn";
   public static final String PARAM_GITLABISSUEPATTERN = "-glp";
+  public static final String PARAM_EXPORT_MODEL = "-em";
+  public static final String PARAM_FROM_MODEL = "-fm";
+  public static final String PARAM_INTEGRATION_DEADLINE = "-id";
+  public static final String PARAM_INTEGRATION_REQUEST_TIMEOUT = "-irt";
+  public static final String PARAM_PATH_FILTER = "-pf";
+  public static final String PARAM_OUTPUT_DIRECTORY = "-od";
+  public static final String PARAM_OUTPUT_INDEX_TEMPLATE = "-oit";
+  public static final String PARAM_OUTPUT_SUFFIX = "-os";
+  public static final String PARAM_TRACE_FILE = "-trf";
 
   private static String systemOutPrintln;
   private static boolean recordSystemOutPrintln;
@@ -113,11 +128,32 @@ public class Main {
         stringArgument(PARAM_OUTPUT_FILE, "--output-file") //
             .description("Write output to file.") //
             .build();
+    final Argument<String> outputDirectoryArgument =
+        stringArgument(PARAM_OUTPUT_DIRECTORY, "--output-directory") //
+            .description(
+                "Write one file per tag to this directory, rendered in parallel. Files of tags that did not change since last run are not rendered again.") //
+            .build();
+    final Argument<String> outputIndexTemplateArgument =
+        stringArgument(PARAM_OUTPUT_INDEX_TEMPLATE, "--output-index-template") //
+            .description(
+                "Template of the index file written with "
+                    + PARAM_OUTPUT_DIRECTORY
+                    + ". It has {{shards}} with name, file and tag of each file.") //
+            .build();
+    final Argument<String> outputSuffixArgument =
+        stringArgument(PARAM_OUTPUT_SUFFIX, "--output-suffix") //
+            .description("File ending of files written with " + PARAM_OUTPUT_DIRECTORY + ".") //
+            .defaultValue(".md") //
+            .build();
 
-    final Argument<String> templatePathArgument =
+    final Argument<List<String>> templatePathArgument =
         stringArgument(PARAM_TEMPLATE, "--template") //
-            .description("Template to use. A default template will be used if not specified.") //
-            .defaultValue(defaultSettings.getTemplatePath()) //
+            .repeated()
+            .description(
+                "Template to use. A default template will be used if not specified. Can also be given, repeatedly, as template=output to render several templates from one GIT walk. e.g. "
+                    + PARAM_TEMPLATE
+                    + " changelog_html.mustache=CHANGELOG.html") //
+            .defaultValue(Arrays.asList(defaultSettings.getTemplatePath())) //
             .build();
 
     final Argument<String> templateBaseDirArgument =
@@ -195,6 +231,13 @@ public class Main {
             .hideFromUsage() //
             .build();
 
+    final Argument<List<String>> pathFilterArgument =
+        stringArgument(PARAM_PATH_FILTER, "--path", "--path-filter") //
+            .repeated()
+            .description(
+                "Only include commits that change files in this path, relative to the repository. Can be used to create a changelog for one directory in a monorepo.") //
+            .build();
+
     final Argument<String> ignoreCommitsIfMessageMatchesArgument =
         stringArgument(PARAM_IGNORE_PATTERN, "--ignore-pattern") //
             .description("Ignore commits where pattern matches message.") //
@@ -203,7 +246,10 @@ public class Main {
 
     final Argument<String> ignoreCommitsOlderThanArgument =
         stringArgument(PARAM_IGNORE_OLDER_PATTERN, "--ignore-older-than") //
-            .description("Ignore commits older than " + DEFAULT_DATEFORMAT + ".") //
+            .description(
+                "Ignore commits older than "
+                    + DEFAULT_DATEFORMAT
+                    + ". Unless a from revision is given, the newest commit older than this, and everything reachable from it, is not walked. Older commits on branches merged later are still walked. With clock skew, or rebased history, an ancestor of that commit with a newer time is then also left out. Give a from revision to avoid that.") //
             .build();
 
     final Argument<String> ignoreTagsIfNameMatchesArgument =
@@ -482,6 +528,40 @@ public class Main {
             .description("Use integrations to get more details on commits.") //
             .build();
 
+    final Argument<String> exportModelArgument =
+        stringArgument(PARAM_EXPORT_MODEL, "--export-model") //
+            .description(
+                "Write the resolved changelog model, with integration data and semantic versions, to this file as JSON. Gzip compressed if file ends with .gz.") //
+            .build();
+
+    final Argument<String> fromModelArgument =
+        stringArgument(PARAM_FROM_MODEL, "--from-model") //
+            .description(
+                "Render the template, or print versions, from a model written with "
+                    + PARAM_EXPORT_MODEL
+                    + " instead of reading GIT and integrations.") //
+            .build();
+
+    final Argument<Integer> integrationDeadlineArgument =
+        integerArgument(PARAM_INTEGRATION_DEADLINE, "--integration-deadline") //
+            .description(
+                "Seconds, at least 1, to wait in total for integrations. When exceeded the changelog is rendered without integration data, {{integrationsIncomplete}} is true and {{skippedIntegrations}} lists the skipped integrations. Both are also written with "
+                    + PARAM_EXPORT_MODEL
+                    + ".") //
+            .build();
+
+    final Argument<Integer> integrationRequestTimeoutArgument =
+        integerArgument(PARAM_INTEGRATION_REQUEST_TIMEOUT, "--integration-request-timeout") //
+            .description(
+                "Seconds to wait for each request to integrations that use HttpURLConnection, like Jira and Redmine. Not applied if -Dsun.net.client.defaultConnectTimeout or -Dsun.net.client.defaultReadTimeout is given to the JVM.") //
+            .build();
+
+    final Argument<String> traceFileArgument =
+        stringArgument(PARAM_TRACE_FILE, "--trace-file") //
+            .description(
+                "Write time spent in each step, like walking GIT and rendering templates, to this file as Chrome trace event JSON.") //
+            .build();
+
     final Argument<String> encodingArgument =
         stringArgument("-en", "--encoding") //
             .description("Encoding to use when writing content.") //
@@ -495,6 +575,9 @@ public class Main {
                   settingsArgument,
                   outputStdoutArgument,
                   outputFileArgument,
+                  outputDirectoryArgument,
+                  outputIndexTemplateArgument,
+                  outputSuffixArgument,
                   templatePathArgument,
                   templateBaseDirArgument,
                   templatePartialSuffixArgument,
@@ -505,6 +588,7 @@ public class Main {
                   fromRevInclusivenessStrategyArgument,
                   fromRefArgument,
                   fromRepoArgument,
+                  pathFilterArgument,
                   toCommitArgument,
                   toRefArgument,
                   untaggedTagNameArgument,
@@ -558,213 +642,302 @@ public class Main {
                   gitlabEnabledArgument,
                   redmineEnabledArgument,
                   useIntegrationsArgument,
+                  exportModelArgument,
+                  fromModelArgument,
+                  integrationDeadlineArgument,
+                  integrationRequestTimeoutArgument,
+                  traceFileArgument,
                   encodingArgument) //
               .parse(args);
 
-      final GitChangelogApi changelogApiBuilder =
-          gitChangelogApiBuilder()
-              .withUseIntegrations(arg.wasGiven(useIntegrationsArgument))
-              .withJiraEnabled(arg.wasGiven(jiraEnabledArgument))
-              .withRedmineEnabled(arg.wasGiven(redmineEnabledArgument))
-              .withGitHubEnabled(arg.wasGiven(githubEnabledArgument))
-              .withGitLabEnabled(arg.wasGiven(gitlabEnabledArgument))
-              .withEncoding(Charset.forName(arg.get(encodingArgument)));
-
-      if (!arg.get(registerHandlebarsHelper).trim().isEmpty()) {
-        changelogApiBuilder.withHandlebarsHelper(arg.get(registerHandlebarsHelper));
-      }
-
-      if (arg.wasGiven(handlebarsHelperFile)) {
-        final byte[] content = Files.readAllBytes(arg.get(handlebarsHelperFile).toPath());
-        final String contentString = new String(content, StandardCharsets.UTF_8);
-        changelogApiBuilder.withHandlebarsHelper(contentString);
+      if (arg.wasGiven(traceFileArgument)) {
+        Tracing.writeTraceFileOnExit(new File(arg.get(traceFileArgument)));
       }
 
-      if (arg.wasGiven(settingsArgument)) {
-        changelogApiBuilder.withSettings(new File(arg.get(settingsArgument)).toURI().toURL());
+      if (arg.wasGiven(integrationRequestTimeoutArgument)) {
+        HttpConnections.timeout(arg.get(integrationRequestTimeoutArgument));
       }
 
-      if (arg.wasGiven(removeIssueFromMessageArgument)) {
-        changelogApiBuilder.withRemoveIssueFromMessageArgument(true);
+      final List<String> javascriptHelpers = new ArrayList<>();
+      if (!arg.get(registerHandlebarsHelper).trim().isEmpty()) {
+        javascriptHelpers.add(arg.get(registerHandlebarsHelper));
       }
-      if (arg.wasGiven(ignoreCommitsWithoutIssueArgument)) {
-        changelogApiBuilder.withIgnoreCommitsWithoutIssue(true);
+      if (arg.wasGiven(handlebarsHelperFile)) {
+        final byte[] content = Files.readAllBytes(arg.get(handlebarsHelperFile).toPath());
+        javascriptHelpers.add(new String(content, StandardCharsets.UTF_8));
       }
 
+      final Map<String, Object> extendedVariables = new HashMap<>();
       if (arg.wasGiven(extendedVariablesArgument)) {
         final String jsonString = arg.get(extendedVariablesArgument);
         final Gson gson = new Gson();
         final Type type = new TypeToken<Map<String, Object>>() {}.getType();
         final Object jsonObject = gson.fromJson(jsonString, type);
-        final Map<String, Object> extendedVariables = new HashMap<>();
         extendedVariables.put("extended", jsonObject);
-        changelogApiBuilder.withExtendedVariables(extendedVariables);
-      }
-
-      if (arg.wasGiven(extendedHeadersArgument)) {
-        final List<String> extendedHeaders = arg.get(extendedHeadersArgument);
-        final Map<String, String> headers = new HashMap<>();
-        for (final String extendedHeader : extendedHeaders) {
-          final String[] splitted = extendedHeader.split(":");
-          if (splitted.length != 2) {
-            throw new RuntimeException("Headers should be on format \"headername:headervalue\"");
-          }
-          final String key = splitted[0].trim();
-          final String value = splitted[1].trim();
-          headers.put(key, value);
-        }
-        changelogApiBuilder.withExtendedHeaders(headers);
-      }
-
-      if (arg.wasGiven(templateContentArgument)) {
-        changelogApiBuilder.withTemplateContent(arg.get(templateContentArgument));
-      }
-
-      if (arg.wasGiven(templateBaseDirArgument)) {
-        changelogApiBuilder.withTemplateBaseDir(arg.get(templateBaseDirArgument));
-      }
-
-      if (arg.wasGiven(templatePartialSuffixArgument)) {
-        changelogApiBuilder.withTemplateSuffix(arg.get(templatePartialSuffixArgument));
       }
 
-      if (arg.wasGiven(fromRepoArgument)) {
-        changelogApiBuilder.withFromRepo(arg.get(fromRepoArgument));
-      }
-      if (arg.wasGiven(untaggedTagNameArgument)) {
-        changelogApiBuilder.withUntaggedName(arg.get(untaggedTagNameArgument));
-      }
-      if (arg.wasGiven(ignoreCommitsIfMessageMatchesArgument)) {
-        changelogApiBuilder.withIgnoreCommitsWithMessage(
-            arg.get(ignoreCommitsIfMessageMatchesArgument));
-      }
-      if (arg.wasGiven(ignoreCommitsOlderThanArgument)) {
-        final Date date =
-            new SimpleDateFormat(DEFAULT_DATEFORMAT).parse(arg.get(ignoreCommitsOlderThanArgument));
-        changelogApiBuilder.withIgnoreCommitsOlderThan(date);
-      }
-      if (arg.wasGiven(ignoreTagsIfNameMatchesArgument)) {
-        changelogApiBuilder.withIgnoreTagsIfNameMatches(arg.get(ignoreTagsIfNameMatchesArgument));
-      }
+      final List<TemplateOutput> templateOutputs = new ArrayList<>();
+      final List<String> templatePaths = new ArrayList<>();
       if (arg.wasGiven(templatePathArgument)) {
-        changelogApiBuilder.withTemplatePath(arg.get(templatePathArgument));
-      }
-      if (arg.wasGiven(jiraIssuePatternArgument)) {
-        changelogApiBuilder.withJiraIssuePattern(arg.get(jiraIssuePatternArgument));
-      }
-      if (arg.wasGiven(jiraServerArgument)) {
-        changelogApiBuilder.withJiraServer(arg.get(jiraServerArgument));
-      }
-      if (arg.wasGiven(jiraUsernamePatternArgument)) {
-        changelogApiBuilder.withJiraUsername(arg.get(jiraUsernamePatternArgument));
-      }
-      if (arg.wasGiven(jiraPasswordPatternArgument)) {
-        changelogApiBuilder.withJiraPassword(arg.get(jiraPasswordPatternArgument));
-      }
-      if (arg.wasGiven(jiraBasicAuthStringPatternArgument)) {
-        changelogApiBuilder.withJiraBasicAuthString(arg.get(jiraBasicAuthStringPatternArgument));
-      }
-      if (arg.wasGiven(jiraBearerArgument)) {
-        changelogApiBuilder.withJiraBearer(arg.get(jiraBearerArgument));
-      }
-      if (arg.wasGiven(jiraAdditionalFieldArgument)) {
-        arg.get(jiraAdditionalFieldArgument)
-            .forEach(changelogApiBuilder::withJiraIssueAdditionalField);
-      }
-      if (arg.wasGiven(redmineIssuePatternArgument)) {
-        changelogApiBuilder.withRedmineIssuePattern(arg.get(redmineIssuePatternArgument));
-      }
-      if (arg.wasGiven(redmineServerArgument)) {
-        changelogApiBuilder.withRedmineServer(arg.get(redmineServerArgument));
-      }
-      if (arg.wasGiven(redmineUsernameArgument)) {
-        changelogApiBuilder.withRedmineUsername(arg.get(redmineUsernameArgument));
-      }
-      if (arg.wasGiven(redminePasswordArgument)) {
-        changelogApiBuilder.withRedminePassword(arg.get(redminePasswordArgument));
-      }
-      if (arg.wasGiven(redmineTokenArgument)) {
-        changelogApiBuilder.withRedmineToken(arg.get(redmineTokenArgument));
-      }
-      if (arg.wasGiven(timeZoneArgument)) {
-        changelogApiBuilder.withTimeZone(arg.get(timeZoneArgument));
-      }
-      if (arg.wasGiven(dateFormatArgument)) {
-        changelogApiBuilder.withDateFormat(arg.get(dateFormatArgument));
-      }
-      if (arg.wasGiven(noIssueArgument)) {
-        changelogApiBuilder.withNoIssueName(arg.get(noIssueArgument));
-      }
-      if (arg.wasGiven(readableTagNameArgument)) {
-        changelogApiBuilder.withReadableTagName(arg.get(readableTagNameArgument));
-      }
-
-      if (arg.wasGiven(fromRevArgument)) {
-        if (arg.wasGiven(fromRevInclusivenessStrategyArgument)) {
-          changelogApiBuilder.withFromRevision(
-              arg.get(fromRevArgument), arg.get(fromRevInclusivenessStrategyArgument));
-        } else {
-          changelogApiBuilder.withFromRevision(arg.get(fromRevArgument));
-        }
-      }
-      if (arg.wasGiven(toRevArgument)) {
-        if (arg.wasGiven(toRevInclusivenessStrategyArgument)) {
-          changelogApiBuilder.withToRevision(
-              arg.get(toRevArgument), arg.get(toRevInclusivenessStrategyArgument));
-        } else {
-          changelogApiBuilder.withToRevision(arg.get(toRevArgument));
+        for (final String template : arg.get(templatePathArgument)) {
+          if (TemplateOutput.isTemplateOutput(template)) {
+            templateOutputs.add(TemplateOutput.parse(template));
+          } else {
+            checkArgument(
+                templatePaths.isEmpty(),
+                "Only one "
+                    + PARAM_TEMPLATE
+                    + " can be given without output, use "
+                    + PARAM_TEMPLATE
+                    + " template=output to render several templates.");
+            templatePaths.add(template);
+          }
         }
       }
-      if (arg.wasGiven(fromCommitArgument)) {
-        changelogApiBuilder.withFromCommit(arg.get(fromCommitArgument));
-      }
-      if (arg.wasGiven(fromRefArgument)) {
-        changelogApiBuilder.withFromRef(arg.get(fromRefArgument));
-      }
-      if (arg.wasGiven(toCommitArgument)) {
-        changelogApiBuilder.withToCommit(arg.get(toCommitArgument));
-      }
-      if (arg.wasGiven(toRefArgument)) {
-        changelogApiBuilder.withToRef(arg.get(toRefArgument));
-      }
-      if (arg.wasGiven(gitHubApiArgument)) {
-        changelogApiBuilder.withGitHubApi(arg.get(gitHubApiArgument));
-      }
-      if (arg.wasGiven(gitHubTokenArgument)) {
-        changelogApiBuilder.withGitHubToken(arg.get(gitHubTokenArgument));
-      }
-
-      if (arg.wasGiven(gitLabServerArgument)) {
-        changelogApiBuilder.withGitLabServer(arg.get(gitLabServerArgument));
-      }
-      if (arg.wasGiven(gitLabProjectNameArgument)) {
-        changelogApiBuilder.withGitLabProjectName(arg.get(gitLabProjectNameArgument));
-      }
-      if (arg.wasGiven(gitLabTokenArgument)) {
-        changelogApiBuilder.withGitLabToken(arg.get(gitLabTokenArgument));
-      }
-      if (arg.wasGiven(gitLabProjectIssuePattern)) {
-        changelogApiBuilder.withGitLabIssuePattern(arg.get(gitLabProjectIssuePattern));
-      }
 
-      if ( //
-      arg.wasGiven(customIssueNameArgument)
-          && //
-          arg.wasGiven(customIssuePatternArgument)) {
-        String title = null;
-        if (arg.wasGiven(customIssueTitleArgument)) {
-          title = arg.get(customIssueTitleArgument);
-        }
-        String link = null;
-        if (arg.wasGiven(customIssueLinkArgument)) {
-          link = arg.get(customIssueLinkArgument);
-        }
-        changelogApiBuilder.withCustomIssue( //
-            arg.get(customIssueNameArgument), //
-            arg.get(customIssuePatternArgument), //
-            link, //
-            title);
-      }
+      final Date ignoreCommitsOlderThan =
+          arg.wasGiven(ignoreCommitsOlderThanArgument)
+              ? new SimpleDateFormat(DEFAULT_DATEFORMAT)
+                  .parse(arg.get(ignoreCommitsOlderThanArgument))
+              : null;
+
+      /*
+       * Creates the API from the arguments. It is invoked again, without integrations, if the
+       * integrations do not finish within the deadline.
+       */
+      final Callable<GitChangelogApi> changelogApi =
+          () -> {
+            final GitChangelogApi changelogApiBuilder =
+                gitChangelogApiBuilder()
+                    .withUseIntegrations(arg.wasGiven(useIntegrationsArgument))
+                    .withJiraEnabled(arg.wasGiven(jiraEnabledArgument))
+                    .withRedmineEnabled(arg.wasGiven(redmineEnabledArgument))
+                    .withGitHubEnabled(arg.wasGiven(githubEnabledArgument))
+                    .withGitLabEnabled(arg.wasGiven(gitlabEnabledArgument))
+                    .withEncoding(Charset.forName(arg.get(encodingArgument)));
+
+            for (final String javascriptHelper : javascriptHelpers) {
+              changelogApiBuilder.withHandlebarsHelper(javascriptHelper);
+            }
+
+            if (arg.wasGiven(settingsArgument)) {
+              changelogApiBuilder.withSettings(new File(arg.get(settingsArgument)).toURI().toURL());
+            }
+
+            if (arg.wasGiven(removeIssueFromMessageArgument)) {
+              changelogApiBuilder.withRemoveIssueFromMessageArgument(true);
+            }
+            if (arg.wasGiven(ignoreCommitsWithoutIssueArgument)) {
+              changelogApiBuilder.withIgnoreCommitsWithoutIssue(true);
+            }
+
+            if (arg.wasGiven(extendedVariablesArgument)) {
+              changelogApiBuilder.withExtendedVariables(extendedVariables);
+            }
+
+            if (arg.wasGiven(extendedHeadersArgument)) {
+              final List<String> extendedHeaders = arg.get(extendedHeadersArgument);
+              final Map<String, String> headers = new HashMap<>();
+              for (final String extendedHeader : extendedHeaders) {
+                final String[] splitted = extendedHeader.split(":");
+                if (splitted.length != 2) {
+                  throw new RuntimeException(
+                      "Headers should be on format \"headername:headervalue\"");
+                }
+                final String key = splitted[0].trim();
+                final String value = splitted[1].trim();
+                headers.put(key, value);
+              }
+              changelogApiBuilder.withExtendedHeaders(headers);
+            }
+
+            if (arg.wasGiven(templateContentArgument)) {
+              changelogApiBuilder.withTemplateContent(arg.get(templateContentArgument));
+            }
+
+            if (arg.wasGiven(templateBaseDirArgument)) {
+              changelogApiBuilder.withTemplateBaseDir(arg.get(templateBaseDirArgument));
+            }
+
+            if (arg.wasGiven(templatePartialSuffixArgument)) {
+              changelogApiBuilder.withTemplateSuffix(arg.get(templatePartialSuffixArgument));
+            }
+
+            if (arg.wasGiven(fromRepoArgument)) {
+              changelogApiBuilder.withFromRepo(arg.get(fromRepoArgument));
+            }
+            if (arg.wasGiven(pathFilterArgument)) {
+              changelogApiBuilder.withPathFilters(
+                  arg.get(pathFilterArgument).toArray(new String[0]));
+            }
+            if (arg.wasGiven(untaggedTagNameArgument)) {
+              changelogApiBuilder.withUntaggedName(arg.get(untaggedTagNameArgument));
+            }
+            if (arg.wasGiven(ignoreCommitsIfMessageMatchesArgument)) {
+              changelogApiBuilder.withIgnoreCommitsWithMessage(
+                  arg.get(ignoreCommitsIfMessageMatchesArgument));
+            }
+            if (ignoreCommitsOlderThan != null) {
+              changelogApiBuilder.withIgnoreCommitsOlderThan(ignoreCommitsOlderThan);
+            }
+            if (arg.wasGiven(ignoreTagsIfNameMatchesArgument)) {
+              changelogApiBuilder.withIgnoreTagsIfNameMatches(
+                  arg.get(ignoreTagsIfNameMatchesArgument));
+            }
+            for (final String templatePath : templatePaths) {
+              changelogApiBuilder.withTemplatePath(templatePath);
+            }
+            if (arg.wasGiven(jiraIssuePatternArgument)) {
+              changelogApiBuilder.withJiraIssuePattern(arg.get(jiraIssuePatternArgument));
+            }
+            if (arg.wasGiven(jiraServerArgument)) {
+              changelogApiBuilder.withJiraServer(arg.get(jiraServerArgument));
+            }
+            if (arg.wasGiven(jiraUsernamePatternArgument)) {
+              changelogApiBuilder.withJiraUsername(arg.get(jiraUsernamePatternArgument));
+            }
+            if (arg.wasGiven(jiraPasswordPatternArgument)) {
+              changelogApiBuilder.withJiraPassword(arg.get(jiraPasswordPatternArgument));
+            }
+            if (arg.wasGiven(jiraBasicAuthStringPatternArgument)) {
+              changelogApiBuilder.withJiraBasicAuthString(
+                  arg.get(jiraBasicAuthStringPatternArgument));
+            }
+            if (arg.wasGiven(jiraBearerArgument)) {
+              changelogApiBuilder.withJiraBearer(arg.get(jiraBearerArgument));
+            }
+            if (arg.wasGiven(jiraAdditionalFieldArgument)) {
+              arg.get(jiraAdditionalFieldArgument)
+                  .forEach(changelogApiBuilder::withJiraIssueAdditionalField);
+            }
+            if (arg.wasGiven(redmineIssuePatternArgument)) {
+              changelogApiBuilder.withRedmineIssuePattern(arg.get(redmineIssuePatternArgument));
+            }
+            if (arg.wasGiven(redmineServerArgument)) {
+              changelogApiBuilder.withRedmineServer(arg.get(redmineServerArgument));
+            }
+            if (arg.wasGiven(redmineUsernameArgument)) {
+              changelogApiBuilder.withRedmineUsername(arg.get(redmineUsernameArgument));
+            }
+            if (arg.wasGiven(redminePasswordArgument)) {
+              changelogApiBuilder.withRedminePassword(arg.get(redminePasswordArgument));
+            }
+            if (arg.wasGiven(redmineTokenArgument)) {
+              changelogApiBuilder.withRedmineToken(arg.get(redmineTokenArgument));
+            }
+            if (arg.wasGiven(timeZoneArgument)) {
+              changelogApiBuilder.withTimeZone(arg.get(timeZoneArgument));
+            }
+            if (arg.wasGiven(dateFormatArgument)) {
+              changelogApiBuilder.withDateFormat(arg.get(dateFormatArgument));
+            }
+            if (arg.wasGiven(noIssueArgument)) {
+              changelogApiBuilder.withNoIssueName(arg.get(noIssueArgument));
+            }
+            if (arg.wasGiven(readableTagNameArgument)) {
+              changelogApiBuilder.withReadableTagName(arg.get(readableTagNameArgument));
+            }
+
+            if (arg.wasGiven(fromRevArgument)) {
+              if (arg.wasGiven(fromRevInclusivenessStrategyArgument)) {
+                changelogApiBuilder.withFromRevision(
+                    arg.get(fromRevArgument), arg.get(fromRevInclusivenessStrategyArgument));
+              } else {
+                changelogApiBuilder.withFromRevision(arg.get(fromRevArgument));
+              }
+            }
+            if (arg.wasGiven(toRevArgument)) {
+              if (arg.wasGiven(toRevInclusivenessStrategyArgument)) {
+                changelogApiBuilder.withToRevision(
+                    arg.get(toRevArgument), arg.get(toRevInclusivenessStrategyArgument));
+              } else {
+                changelogApiBuilder.withToRevision(arg.get(toRevArgument));
+              }
+            }
+            if (arg.wasGiven(fromCommitArgument)) {
+              changelogApiBuilder.withFromCommit(arg.get(fromCommitArgument));
+            }
+            if (arg.wasGiven(fromRefArgument)) {
+              changelogApiBuilder.withFromRef(arg.get(fromRefArgument));
+            }
+            if (arg.wasGiven(toCommitArgument)) {
+              changelogApiBuilder.withToCommit(arg.get(toCommitArgument));
+            }
+            if (arg.wasGiven(toRefArgument)) {
+              changelogApiBuilder.withToRef(arg.get(toRefArgument));
+            }
+            if (ignoreCommitsOlderThan != null && !arg.wasGiven(fromModelArgument)) {
+              final Settings settings = changelogApiBuilder.getSettings();
+              final boolean fromRevisionGiven =
+                  settings.getFromRevision().filter(it -> !it.equals(ZERO_COMMIT)).isPresent();
+              if (!fromRevisionGiven) {
+                RevisionBoundary.olderThan(
+                        settings.getFromRepo(),
+                        settings.getToRevision().orElse(null),
+                        ignoreCommitsOlderThan)
+                    .ifPresent(
+                        boundary ->
+                            changelogApiBuilder.withFromRevision(
+                                boundary, InclusivenessStrategy.EXCLUSIVE));
+              }
+            }
+            if (arg.wasGiven(gitHubApiArgument)) {
+              changelogApiBuilder.withGitHubApi(arg.get(gitHubApiArgument));
+            }
+            if (arg.wasGiven(gitHubTokenArgument)) {
+              changelogApiBuilder.withGitHubToken(arg.get(gitHubTokenArgument));
+            }
+
+            if (arg.wasGiven(gitLabServerArgument)) {
+              changelogApiBuilder.withGitLabServer(arg.get(gitLabServerArgument));
+            }
+            if (arg.wasGiven(gitLabProjectNameArgument)) {
+              changelogApiBuilder.withGitLabProjectName(arg.get(gitLabProjectNameArgument));
+            }
+            if (arg.wasGiven(gitLabTokenArgument)) {
+              changelogApiBuilder.withGitLabToken(arg.get(gitLabTokenArgument));
+            }
+            if (arg.wasGiven(gitLabProjectIssuePattern)) {
+              changelogApiBuilder.withGitLabIssuePattern(arg.get(gitLabProjectIssuePattern));
+            }
+
+            if ( //
+            arg.wasGiven(customIssueNameArgument)
+                && //
+                arg.wasGiven(customIssuePatternArgument)) {
+              String title = null;
+              if (arg.wasGiven(customIssueTitleArgument)) {
+                title = arg.get(customIssueTitleArgument);
+              }
+              String link = null;
+              if (arg.wasGiven(customIssueLinkArgument)) {
+                link = arg.get(customIssueLinkArgument);
+              }
+              changelogApiBuilder.withCustomIssue( //
+                  arg.get(customIssueNameArgument), //
+                  arg.get(customIssuePatternArgument), //
+                  link, //
+                  title);
+            }
+
+            if (arg.wasGiven(majorVersionPattern)) {
+              final String major = arg.get(majorVersionPattern);
+              changelogApiBuilder.withSemanticMajorVersionPattern(major);
+            }
+
+            if (arg.wasGiven(minorVersionPattern)) {
+              final String minor = arg.get(minorVersionPattern);
+              changelogApiBuilder.withSemanticMinorVersionPattern(minor);
+            }
+
+            if (arg.wasGiven(patchVersionPattern)) {
+              final String patch = arg.get(patchVersionPattern);
+              changelogApiBuilder.withSemanticPatchVersionPattern(patch);
+            }
+
+            return changelogApiBuilder;
+          };
+      final GitChangelogApi changelogApiBuilder = changelogApi.call();
 
       checkArgument( //
           arg.wasGiven(outputStdoutArgument)
@@ -773,7 +946,10 @@ public class Main {
               || arg.wasGiven(printHighestVersion)
               || arg.wasGiven(printHighestVersionTag)
               || arg.wasGiven(printNextVersion)
-              || arg.wasGiven(printCurrentVersion), //
+              || arg.wasGiven(printCurrentVersion)
+              || arg.wasGiven(exportModelArgument)
+              || !templateOutputs.isEmpty()
+              || arg.wasGiven(outputDirectoryArgument), //
           "You must supply an output, "
               + PARAM_OUTPUT_FILE
               + " <filename>, "
@@ -785,35 +961,180 @@ public class Main {
               + ", "
               + PARAM_PRINT_NEXT_VERSION
               + ", "
-              + PARAM_PRINT_CURRENT_VERSION);
+              + PARAM_PRINT_CURRENT_VERSION
+              + ", "
+              + PARAM_EXPORT_MODEL
+              + " <filename>, "
+              + PARAM_TEMPLATE
+              + " <template>=<filename>, "
+              + PARAM_OUTPUT_DIRECTORY
+              + " <directory>");
+      checkArgument(
+          !arg.wasGiven(integrationDeadlineArgument) || arg.get(integrationDeadlineArgument) >= 1,
+          PARAM_INTEGRATION_DEADLINE + " must be at least 1 second");
+      checkArgument(
+          !arg.wasGiven(outputDirectoryArgument) || arg.wasGiven(outputIndexTemplateArgument),
+          PARAM_OUTPUT_INDEX_TEMPLATE + " must be given with " + PARAM_OUTPUT_DIRECTORY);
+
+      final Charset encoding = Charset.forName(arg.get(encodingArgument));
+      Changelog model = null;
+      boolean integrationsIncomplete = false;
+      List<String> skippedIntegrations = new ArrayList<>();
+      Optional<ChangelogModel> fromModel = Optional.empty();
+      if (arg.wasGiven(fromModelArgument)) {
+        final ChangelogModel read = ChangelogModelFile.read(new File(arg.get(fromModelArgument)));
+        model = read.getChangelog();
+        integrationsIncomplete = read.isIntegrationsIncomplete();
+        skippedIntegrations = read.getSkippedIntegrations();
+        fromModel = Optional.of(read);
+      }
 
-      if (arg.wasGiven(outputStdoutArgument)) {
-        systemOutPrintln(changelogApiBuilder.render());
+      if (model == null
+          && arg.wasGiven(integrationDeadlineArgument)
+          && changelogApiBuilder.getSettings().isUseIntegrations()) {
+        final int deadline = arg.get(integrationDeadlineArgument);
+        final ChangelogModel resolved =
+            IntegrationDeadline.resolve(
+                () -> getChangelog(changelogApiBuilder, true),
+                () -> getChangelog(changelogApi.call().withUseIntegrations(false), false),
+                IntegrationDeadline.configuredIntegrations(changelogApiBuilder.getSettings()),
+                deadline);
+        model = resolved.getChangelog();
+        integrationsIncomplete = resolved.isIntegrationsIncomplete();
+        skippedIntegrations = resolved.getSkippedIntegrations();
+        if (integrationsIncomplete) {
+          System.err.println(
+              "Integrations did not finish within "
+                  + deadline
+                  + " seconds, skipped: "
+                  + String.join(", ", skippedIntegrations)
+                  + ". Issues are rendered without data from these integrations.");
+        }
       }
 
-      if (arg.wasGiven(outputFileArgument)) {
-        final String filePath = arg.get(outputFileArgument);
-        changelogApiBuilder.toFile(new File(filePath));
+      if (integrationsIncomplete) {
+        extendedVariables.put("integrationsIncomplete", true);
+        extendedVariables.put("skippedIntegrations", skippedIntegrations);
+      }
+
+      if (model == null
+          && (arg.wasGiven(exportModelArgument)
+              || !templateOutputs.isEmpty()
+              || arg.wasGiven(outputDirectoryArgument))) {
+        model =
+            getChangelog(
+                changelogApiBuilder, changelogApiBuilder.getSettings().isUseIntegrations());
       }
 
-      if (arg.wasGiven(majorVersionPattern)) {
-        final String major = arg.get(majorVersionPattern);
-        changelogApiBuilder.withSemanticMajorVersionPattern(major);
+      if (arg.wasGiven(exportModelArgument)) {
+        ChangelogModelFile.write(
+            new ChangelogModel(
+                model,
+                integrationsIncomplete,
+                skippedIntegrations,
+                semanticVersion(
+                    fromModel.flatMap(ChangelogModel::getHighestVersion),
+                    PARAM_PRINT_HIGHEST_VERSION,
+                    () -> changelogApiBuilder.getHighestSemanticVersion().toString()),
+                semanticVersion(
+                    fromModel.flatMap(ChangelogModel::getHighestVersionTag),
+                    PARAM_PRINT_HIGHEST_VERSION_TAG,
+                    () -> changelogApiBuilder.getHighestSemanticVersion().findTag().orElse("")),
+                semanticVersion(
+                    fromModel.flatMap(ChangelogModel::getNextVersion),
+                    PARAM_PRINT_NEXT_VERSION,
+                    () -> changelogApiBuilder.getNextSemanticVersion().toString()),
+                semanticVersion(
+                    fromModel.flatMap(ChangelogModel::getCurrentVersion),
+                    PARAM_PRINT_CURRENT_VERSION,
+                    () -> changelogApiBuilder.getCurrentSemanticVersion().toString())),
+            new File(arg.get(exportModelArgument)));
       }
 
-      if (arg.wasGiven(minorVersionPattern)) {
-        final String minor = arg.get(minorVersionPattern);
-        changelogApiBuilder.withSemanticMinorVersionPattern(minor);
+      ChangelogRenderer modelRenderer = null;
+      if (model != null) {
+        final Settings settings = changelogApiBuilder.getSettings();
+        final Map<String, Object> renderVariables = new HashMap<>();
+        if (settings.getExtendedVariables() != null) {
+          renderVariables.putAll(settings.getExtendedVariables());
+        }
+        renderVariables.putAll(extendedVariables);
+        modelRenderer =
+            new ChangelogRenderer(
+                settings.getTemplateBaseDir(),
+                settings.getTemplateSuffix(),
+                javascriptHelpers,
+                renderVariables);
+      }
+
+      if (!templateOutputs.isEmpty()) {
+        modelRenderer.renderAll(templateOutputs, model, encoding);
+      }
+
+      if (arg.wasGiven(outputDirectoryArgument)) {
+        final int rendered =
+            new ShardedOutput(
+                    modelRenderer,
+                    new File(arg.get(outputDirectoryArgument)),
+                    arg.get(outputSuffixArgument),
+                    encoding)
+                .write(
+                    model,
+                    changelogApiBuilder.getTemplateString(),
+                    ChangelogRenderer.readTemplate(arg.get(outputIndexTemplateArgument)));
+        System.err.println(
+            "Rendered "
+                + rendered
+                + " of "
+                + model.getTags().size()
+                + " files to "
+                + arg.get(outputDirectoryArgument)
+                + ", the others did not change.");
+      }
+
+      if (arg.wasGiven(outputStdoutArgument)) {
+        if (modelRenderer != null) {
+          systemOutPrintln(
+              modelRenderer.render(
+                  changelogApiBuilder.getTemplateString(), model, PARAM_OUTPUT_STDOUT));
+        } else {
+          try (Tracing.Span span = Tracing.span("render", PARAM_OUTPUT_STDOUT)) {
+            systemOutPrintln(changelogApiBuilder.render());
+          }
+        }
       }
 
-      if (arg.wasGiven(patchVersionPattern)) {
-        final String patch = arg.get(patchVersionPattern);
-        changelogApiBuilder.withSemanticPatchVersionPattern(patch);
+      if (arg.wasGiven(outputFileArgument)) {
+        final String filePath = arg.get(outputFileArgument);
+        if (modelRenderer != null) {
+          final String rendered =
+              modelRenderer.render(changelogApiBuilder.getTemplateString(), model, filePath);
+          try (Tracing.Span span = Tracing.span("file output", filePath)) {
+            Files.write(new File(filePath).toPath(), rendered.getBytes(encoding));
+          }
+        } else {
+          try (Tracing.Span span = Tracing.span("render", filePath)) {
+            changelogApiBuilder.toFile(new File(filePath));
+          }
+        }
       }
 
       if (arg.wasGiven(prependToFile)) {
         final String filePath = arg.get(prependToFile);
-        changelogApiBuilder.prependToFile(new File(filePath));
+        if (modelRenderer != null) {
+          final File file = new File(filePath);
+          final String rendered =
+              modelRenderer.render(changelogApiBuilder.getTemplateString(), model, filePath);
+          final String existing =
+              file.exists() ? new String(Files.readAllBytes(file.toPath()), encoding) : "";
+          try (Tracing.Span span = Tracing.span("file output", filePath)) {
+            Files.write(file.toPath(), (rendered + existing).getBytes(encoding));
+          }
+        } else {
+          try (Tracing.Span span = Tracing.span("render", filePath)) {
+            changelogApiBuilder.prependToFile(new File(filePath));
+          }
+        }
       }
 
       if (arg.wasGiven(showDebugInfo)) {
@@ -833,28 +1154,38 @@ public class Main {
       }
 
       if (arg.wasGiven(printHighestVersion)) {
-        final String version = changelogApiBuilder.getHighestSemanticVersion().toString();
-        System.out.println(version);
+        System.out.println(
+            semanticVersion(
+                fromModel.flatMap(ChangelogModel::getHighestVersion),
+                PARAM_PRINT_HIGHEST_VERSION,
+                () -> changelogApiBuilder.getHighestSemanticVersion().toString()));
         System.exit(0);
       }
 
       if (arg.wasGiven(printHighestVersionTag)) {
-        final SemanticVersion highestSemanticVersion =
-            changelogApiBuilder.getHighestSemanticVersion();
-        final String tag = highestSemanticVersion.findTag().orElse("");
-        System.out.println(tag);
+        System.out.println(
+            semanticVersion(
+                fromModel.flatMap(ChangelogModel::getHighestVersionTag),
+                PARAM_PRINT_HIGHEST_VERSION_TAG,
+                () -> changelogApiBuilder.getHighestSemanticVersion().findTag().orElse("")));
         System.exit(0);
       }
 
       if (arg.wasGiven(printNextVersion)) {
-        final String version = changelogApiBuilder.getNextSemanticVersion().toString();
-        System.out.println(version);
+        System.out.println(
+            semanticVersion(
+                fromModel.flatMap(ChangelogModel::getNextVersion),
+                PARAM_PRINT_NEXT_VERSION,
+                () -> changelogApiBuilder.getNextSemanticVersion().toString()));
         System.exit(0);
       }
 
       if (arg.wasGiven(printCurrentVersion)) {
-        final String version = changelogApiBuilder.getCurrentSemanticVersion().toString();
-        System.out.println(version);
+        System.out.println(
+            semanticVersion(
+                fromModel.flatMap(ChangelogModel::getCurrentVersion),
+                PARAM_PRINT_CURRENT_VERSION,
+                () -> changelogApiBuilder.getCurrentSemanticVersion().toString()));
         System.exit(0);
       }
 
@@ -864,6 +1195,27 @@ public class Main {
     }
   }
 
+  private static Changelog getChangelog(
+      final GitChangelogApi changelogApiBuilder, final boolean useIntegrations) throws Exception {
+    try (Tracing.Span span =
+        Tracing.span(
+            "commit walk", useIntegrations ? "with integrations" : "without integrations")) {
+      return changelogApiBuilder.getChangelog(useIntegrations);
+    }
+  }
+
+  /** The version from the model, if it has one, otherwise resolved from GIT. */
+  private static String semanticVersion(
+      final Optional<String> fromModel, final String param, final Callable<String> fromGit)
+      throws Exception {
+    if (fromModel.isPresent()) {
+      return fromModel.get();
+    }
+    try (Tracing.Span span = Tracing.span("semantic version", param)) {
+      return fromGit.call();
+    }
+  }
+
   private static void checkArgument(final boolean b, final String string) {
     if (!b) {
       throw new IllegalStateException(string);
@@ -0,0 +1,52 @@
+package se.bjurr.gitchangelog.main;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Optional;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+
+/**
+ * Finds a revision the changelog can start from. Commits are walked newest first, without parsing
+ * their messages, until the first commit older than the cutoff. That commit, and everything
+ * reachable from it, is then excluded from the changelog walk. Other commits older than the
+ * cutoff, like those on a branch that was merged after the cutoff, are still walked, and filtered
+ * by time, as before. Excluding that history only gives the same changelog if commit times
+ * increase along the history. With clock skew, or rebased history, an ancestor can be newer than
+ * the cutoff, it is then left out.
+ */
+public final class RevisionBoundary {
+  private RevisionBoundary() {}
+
+  public static Optional<String> olderThan(
+      final String fromRepo, final String toRevision, final Date cutoff) throws IOException {
+    try (Tracing.Span span = Tracing.span("boundary walk", fromRepo);
+        Repository repository =
+            new FileRepositoryBuilder().findGitDir(new File(fromRepo)).readEnvironment().build();
+        RevWalk walk = new RevWalk(repository)) {
+      ObjectId start = toRevision == null ? null : repository.resolve(toRevision);
+      if (start == null) {
+        start = repository.resolve(Constants.HEAD);
+      }
+      if (start == null) {
+        return Optional.empty();
+      }
+      walk.setRetainBody(false);
+      walk.sort(RevSort.COMMIT_TIME_DESC);
+      walk.markStart(walk.parseCommit(start));
+      final long cutoffSeconds = cutoff.getTime() / 1000;
+      for (final RevCommit commit : walk) {
+        if (commit.getCommitTime() < cutoffSeconds) {
+          return Optional.of(commit.getName());
+        }
+      }
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package se.bjurr.gitchangelog.main;
+
+import com.github.jknack.handlebars.Template;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import se.bjurr.gitchangelog.api.model.Changelog;
+import se.bjurr.gitchangelog.api.model.Tag;
+
+/**
+ * Writes one file per tag to a directory, and an index file. A shard is only rendered if its tag,
+ * the template, extended variables, helpers or encoding changed since the last run. That is
+ * detected with a hash stored in {@value #HASHES_FILE}. Files of tags that are gone are removed.
+ */
+public class ShardedOutput {
+  private static final String HASHES_FILE = ".git-changelog-shards.json";
+  private static final String INDEX_NAME = "index";
+
+  private final ChangelogRenderer renderer;
+  private final File directory;
+  private final String suffix;
+  private final Charset encoding;
+
+  public ShardedOutput(
+      final ChangelogRenderer renderer,
+      final File directory,
+      final String suffix,
+      final Charset encoding) {
+    this.renderer = renderer;
+    this.directory = directory;
+    this.suffix = suffix;
+    this.encoding = encoding;
+  }
+
+  /**
+   * @return number of shards that were rendered, the others were unchanged.
+   */
+  public int write(
+      final Changelog changelog, final String shardTemplate, final String indexTemplate)
+      throws Exception {
+    Files.createDirectories(this.directory.toPath());
+    final Gson gson = new Gson();
+    final Map<String, String> previousHashes = this.readHashes(gson);
+    final Map<String, String> hashes = new ConcurrentHashMap<>();
+    final AtomicInteger rendered = new AtomicInteger();
+    final Template template = this.renderer.compile(shardTemplate, this.directory.getPath());
+    final String templateHash =
+        sha256(shardTemplate + this.renderer.getFingerprint() + this.encoding.name());
+
+    final List<Map<String, Object>> shards = new ArrayList<>();
+    final List<Callable<Void>> tasks = new ArrayList<>();
+    final Set<String> fileNames = new HashSet<>();
+    for (final Tag tag : changelog.getTags()) {
+      final String fileName = this.uniqueFileName(tag.getName(), fileNames);
+      final Map<String, Object> shard = new LinkedHashMap<>();
+      shard.put("name", tag.getName());
+      shard.put("file", fileName);
+      shard.put("tag", tag);
+      shards.add(shard);
+
+      tasks.add(
+          () -> {
+            final String hash = sha256(templateHash + gson.toJson(tag));
+            hashes.put(fileName, hash);
+            final File file = new File(this.directory, fileName);
+            if (file.exists() && hash.equals(previousHashes.get(fileName))) {
+              return null;
+            }
+            final String content =
+                this.renderer.apply(template, shardContext(changelog, tag), file.getPath());
+            try (Tracing.Span span = Tracing.span("file output", file.getPath())) {
+              Files.write(file.toPath(), content.getBytes(this.encoding));
+            }
+            rendered.incrementAndGet();
+            return null;
+          });
+    }
+    this.renderer.runAll(tasks);
+
+    final Map<String, Object> index = new HashMap<>();
+    index.put("ownerName", changelog.getOwnerName());
+    index.put("repoName", changelog.getRepoName());
+    index.put("tags", changelog.getTags());
+    index.put("shards", shards);
+    final File indexFile = new File(this.directory, INDEX_NAME + this.suffix);
+    final String content =
+        this.renderer.apply(
+            this.renderer.compile(indexTemplate, indexFile.getPath()), index, indexFile.getPath());
+    Files.write(indexFile.toPath(), content.getBytes(this.encoding));
+
+    for (final String previous : previousHashes.keySet()) {
+      final boolean inDirectory = previous.equals(new File(previous).getName());
+      if (inDirectory && !hashes.containsKey(previous)) {
+        Files.deleteIfExists(new File(this.directory, previous).toPath());
+      }
+    }
+    this.writeHashes(gson, hashes);
+    return rendered.get();
+  }
+
+  /** Same variables as the whole changelog, but with only the given tag. */
+  private static Map<String, Object> shardContext(final Changelog changelog, final Tag tag) {
+    final Map<String, Object> context = new HashMap<>();
+    context.put("ownerName", changelog.getOwnerName());
+    context.put("repoName", changelog.getRepoName());
+    context.put("tags", Collections.singletonList(tag));
+    context.put("commits", tag.getCommits());
+    context.put("issues", tag.getIssues());
+    context.put("authors", tag.getAuthors());
+    context.put("issueTypes", tag.getIssueTypes());
+    return context;
+  }
+
+  private String uniqueFileName(final String tagName, final Set<String> taken) {
+    final String base = tagName.replaceAll("[^A-Za-z0-9._-]", "_");
+    String fileName = base + this.suffix;
+    int i = 1;
+    while (!taken.add(fileName)
+        || fileName.equals(INDEX_NAME + this.suffix)
+        || fileName.equals(HASHES_FILE)) {
+      fileName = base + "-" + i++ + this.suffix;
+    }
+    return fileName;
+  }
+
+  private Map<String, String> readHashes(final Gson gson) throws IOException {
+    final File file = new File(this.directory, HASHES_FILE);
+    if (!file.exists()) {
+      return new HashMap<>();
+    }
+    final Type type = new TypeToken<Map<String, String>>() {}.getType();
+    final String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    final Map<String, String> hashes = gson.fromJson(json, type);
+    return hashes == null ? new HashMap<>() : hashes;
+  }
+
+  private void writeHashes(final Gson gson, final Map<String, String> hashes)
+      throws IOException {
+    final File file = new File(this.directory, HASHES_FILE);
+    Files.write(file.toPath(), gson.toJson(hashes).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String sha256(final String content) throws NoSuchAlgorithmException {
+    final byte[] digest =
+        MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+    final StringBuilder hex = new StringBuilder();
+    for (final byte b : digest) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+}
@@ -0,0 +1,20 @@
+package se.bjurr.gitchangelog.main;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Flight Recorder event for one {@link Tracing.Span}. */
+@Name("se.bjurr.gitchangelog.Span")
+@Label("Git Changelog Span")
+@Category("Git Changelog")
+@Description("A step, like walking GIT or rendering a template, when creating a changelog.")
+class SpanEvent extends Event {
+  @Label("Name")
+  String name;
+
+  @Label("Detail")
+  String detail;
+}
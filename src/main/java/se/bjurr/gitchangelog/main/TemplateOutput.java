@@ -0,0 +1,59 @@
+package se.bjurr.gitchangelog.main;
+
+import java.io.File;
+
+/** A template and the file it should be rendered to, given as {@code template=output}. */
+public class TemplateOutput {
+  private static final String SEPARATOR = "=";
+
+  private final String template;
+  private final File output;
+
+  public TemplateOutput(final String template, final File output) {
+    this.template = template;
+    this.output = output;
+  }
+
+  /** A value that names an existing template, even if it contains the separator, is no pair. */
+  public static boolean isTemplateOutput(final String value) {
+    return value.contains(SEPARATOR) && !ChangelogRenderer.templateExists(value);
+  }
+
+  /**
+   * Splits at the first separator that has an existing template before it, so that template paths
+   * may contain the separator. If there is none, it is split at the first separator.
+   */
+  public static TemplateOutput parse(final String value) {
+    int separator = value.indexOf(SEPARATOR);
+    for (int i = separator; i != -1; i = value.indexOf(SEPARATOR, i + 1)) {
+      if (ChangelogRenderer.templateExists(value.substring(0, i).trim())) {
+        separator = i;
+        break;
+      }
+    }
+    if (separator == -1) {
+      throw new IllegalArgumentException(
+          "Template should be on format \"template=output\" but was \"" + value + "\"");
+    }
+    final String template = value.substring(0, separator).trim();
+    final String output = value.substring(separator + 1).trim();
+    if (template.isEmpty() || output.isEmpty()) {
+      throw new IllegalArgumentException(
+          "Template should be on format \"template=output\" but was \"" + value + "\"");
+    }
+    return new TemplateOutput(template, new File(output));
+  }
+
+  public String getTemplate() {
+    return this.template;
+  }
+
+  public File getOutput() {
+    return this.output;
+  }
+
+  @Override
+  public String toString() {
+    return this.template + SEPARATOR + this.output;
+  }
+}
@@ -0,0 +1,95 @@
+package se.bjurr.gitchangelog.main;
+
+import com.google.gson.Gson;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records each step of a run as a Java Flight Recorder event, and optionally as Chrome trace
+ * event JSON. The Flight Recorder events are only collected when a recording is running, like
+ * with {@code -XX:StartFlightRecording}.
+ */
+public final class Tracing {
+  private static final List<Map<String, Object>> traceEvents =
+      Collections.synchronizedList(new ArrayList<>());
+  private static volatile boolean recordTraceEvents;
+
+  private Tracing() {}
+
+  public static Span span(final String name, final String detail) {
+    return new Span(name, detail);
+  }
+
+  /** Writes the recorded spans to the file when the process exits, also on System.exit. */
+  public static void writeTraceFileOnExit(final File traceFile) {
+    recordTraceEvents = true;
+    Runtime.getRuntime()
+        .addShutdownHook(
+            new Thread(
+                () -> {
+                  try {
+                    writeTraceFile(traceFile);
+                  } catch (final IOException e) {
+                    System.err.println("Could not write " + traceFile + ": " + e.getMessage());
+                  }
+                },
+                "git-changelog-trace"));
+  }
+
+  private static void writeTraceFile(final File traceFile) throws IOException {
+    final Map<String, Object> trace = new HashMap<>();
+    synchronized (traceEvents) {
+      trace.put("traceEvents", new ArrayList<>(traceEvents));
+    }
+    trace.put("displayTimeUnit", "ms");
+    Files.write(traceFile.toPath(), new Gson().toJson(trace).getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static final class Span implements AutoCloseable {
+    private final String name;
+    private final String detail;
+    private final SpanEvent event;
+    private final long startNanos;
+
+    private Span(final String name, final String detail) {
+      this.name = name;
+      this.detail = detail;
+      this.event = new SpanEvent();
+      this.event.begin();
+      this.startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void close() {
+      final long endNanos = System.nanoTime();
+      this.event.end();
+      if (this.event.shouldCommit()) {
+        this.event.name = this.name;
+        this.event.detail = this.detail;
+        this.event.commit();
+      }
+      if (recordTraceEvents) {
+        final Map<String, Object> args = new HashMap<>();
+        args.put("detail", this.detail);
+        final Map<String, Object> traceEvent = new LinkedHashMap<>();
+        traceEvent.put("name", this.name);
+        traceEvent.put("cat", "git-changelog");
+        traceEvent.put("ph", "X");
+        traceEvent.put("ts", this.startNanos / 1000);
+        traceEvent.put("dur", (endNanos - this.startNanos) / 1000);
+        traceEvent.put("pid", ProcessHandle.current().pid());
+        traceEvent.put("tid", Thread.currentThread().getId());
+        traceEvent.put("args", args);
+        traceEvents.add(traceEvent);
+      }
+    }
+  }
+}
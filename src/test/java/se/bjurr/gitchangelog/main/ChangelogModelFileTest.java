@@ -0,0 +1,108 @@
+package se.bjurr.gitchangelog.main;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static se.bjurr.gitchangelog.api.GitChangelogApi.gitChangelogApiBuilder;
+import static se.bjurr.gitchangelog.internal.settings.Settings.defaultSettings;
+
+import com.google.gson.Gson;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import se.bjurr.gitchangelog.api.model.Changelog;
+import se.bjurr.gitchangelog.internal.settings.Settings;
+
+public class ChangelogModelFileTest {
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private Changelog changelog;
+  private ChangelogRenderer renderer;
+  private String template;
+
+  @Before
+  public void before() throws Exception {
+    this.changelog =
+        gitChangelogApiBuilder() //
+            .withFromRepo(".") //
+            .withToRevision("HEAD") //
+            .getChangelog(false);
+    final Settings settings = defaultSettings();
+    this.renderer =
+        new ChangelogRenderer(
+            settings.getTemplateBaseDir(),
+            settings.getTemplateSuffix(),
+            new ArrayList<>(),
+            new HashMap<>());
+    this.template = ChangelogRenderer.readTemplate(settings.getTemplatePath());
+  }
+
+  @Test
+  public void testThatModelCanBeWrittenReadAndRendered() throws Exception {
+    this.assertRoundTrip(this.folder.newFile("model.json"));
+  }
+
+  @Test
+  public void testThatGzippedModelCanBeWrittenReadAndRendered() throws Exception {
+    this.assertRoundTrip(this.folder.newFile("model.json.gz"));
+  }
+
+  @Test
+  public void testThatModelRendersLikeTheApi() throws Exception {
+    final String expected =
+        gitChangelogApiBuilder() //
+            .withFromRepo(".") //
+            .withToRevision("HEAD") //
+            .render();
+
+    assertEquals(expected, this.renderer.render(this.template, this.changelog, "model"));
+  }
+
+  @Test
+  public void testThatVersionsCanBeWrittenAndRead() throws Exception {
+    final File file = this.folder.newFile("versions.json");
+    ChangelogModelFile.write(
+        new ChangelogModel(
+            this.changelog, false, new ArrayList<>(), "1.2.0", "v1.2.0", "1.3.0", "1.3.0"),
+        file);
+
+    final ChangelogModel model = ChangelogModelFile.read(file);
+
+    assertEquals("1.2.0", model.getHighestVersion().get());
+    assertEquals("v1.2.0", model.getHighestVersionTag().get());
+    assertEquals("1.3.0", model.getNextVersion().get());
+    assertEquals("1.3.0", model.getCurrentVersion().get());
+  }
+
+  @Test
+  public void testThatVersionsAreEmptyInModelWithoutThem() throws Exception {
+    final File file = this.folder.newFile("no-versions.json");
+    ChangelogModelFile.write(new ChangelogModel(this.changelog, false, new ArrayList<>()), file);
+
+    final ChangelogModel model = ChangelogModelFile.read(file);
+
+    assertFalse(model.getHighestVersion().isPresent());
+    assertFalse(model.getNextVersion().isPresent());
+  }
+
+  private void assertRoundTrip(final File file) throws Exception {
+    ChangelogModelFile.write(
+        new ChangelogModel(this.changelog, true, Arrays.asList("Jira")), file);
+    final ChangelogModel model = ChangelogModelFile.read(file);
+    final Changelog read = model.getChangelog();
+
+    assertTrue(model.isIntegrationsIncomplete());
+    assertEquals(Arrays.asList("Jira"), model.getSkippedIntegrations());
+
+    assertEquals(new Gson().toJson(this.changelog), new Gson().toJson(read));
+
+    final String expected = this.renderer.render(this.template, this.changelog, "model");
+    assertFalse(expected.trim().isEmpty());
+    assertEquals(expected, this.renderer.render(this.template, read, "model"));
+  }
+}
@@ -0,0 +1,77 @@
+package se.bjurr.gitchangelog.main;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static se.bjurr.gitchangelog.internal.settings.Settings.defaultSettings;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ChangelogRendererTest {
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private ChangelogRenderer renderer;
+
+  @Before
+  public void before() throws Exception {
+    final Map<String, Object> extended = new HashMap<>();
+    extended.put("title", "Changes");
+    final Map<String, Object> extendedVariables = new HashMap<>();
+    extendedVariables.put("extended", extended);
+    this.renderer = new ChangelogRenderer(null, ".hbs", new ArrayList<>(), extendedVariables);
+  }
+
+  @Test
+  public void testThatChangelogIsRendered() throws Exception {
+    final String rendered =
+        this.renderer.render(
+            "{{extended.title}}:{{#tags}} {{name}}{{/tags}}",
+            TestChangelogs.changelog("1.1", "1.0"),
+            "changelog");
+
+    assertEquals("Changes: 1.1 1.0", rendered);
+  }
+
+  @Test
+  public void testThatEveryTemplateIsRenderedToItsOutput() throws Exception {
+    final List<TemplateOutput> templateOutputs = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      final File template = this.folder.newFile("template" + i + ".hbs");
+      Files.write(
+          template.toPath(),
+          (i + "{{#tags}} {{name}}{{/tags}}").getBytes(StandardCharsets.UTF_8));
+      templateOutputs.add(
+          new TemplateOutput(template.getPath(), new File(this.folder.getRoot(), "output" + i)));
+    }
+
+    this.renderer.renderAll(
+        templateOutputs, TestChangelogs.changelog("1.1", "1.0"), StandardCharsets.UTF_8);
+
+    for (int i = 0; i < 8; i++) {
+      assertEquals(
+          Arrays.asList(i + " 1.1 1.0"),
+          Files.readAllLines(templateOutputs.get(i).getOutput().toPath(), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void testThatTemplateOnClasspathExists() {
+    assertTrue(ChangelogRenderer.templateExists(defaultSettings().getTemplatePath()));
+  }
+
+  @Test
+  public void testThatMissingTemplateDoesNotExist() {
+    assertFalse(ChangelogRenderer.templateExists("no-such-template.mustache"));
+  }
+}
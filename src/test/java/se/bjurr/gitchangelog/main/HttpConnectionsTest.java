@@ -0,0 +1,60 @@
+package se.bjurr.gitchangelog.main;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HttpConnectionsTest {
+  private static final String CONNECT_TIMEOUT = "sun.net.client.defaultConnectTimeout";
+  private static final String READ_TIMEOUT = "sun.net.client.defaultReadTimeout";
+
+  private String connectTimeoutBefore;
+  private String readTimeoutBefore;
+
+  @Before
+  public void before() {
+    this.connectTimeoutBefore = System.getProperty(CONNECT_TIMEOUT);
+    this.readTimeoutBefore = System.getProperty(READ_TIMEOUT);
+    System.clearProperty(CONNECT_TIMEOUT);
+    System.clearProperty(READ_TIMEOUT);
+  }
+
+  @After
+  public void after() {
+    restore(CONNECT_TIMEOUT, this.connectTimeoutBefore);
+    restore(READ_TIMEOUT, this.readTimeoutBefore);
+  }
+
+  @Test
+  public void testThatTimeoutIsSetInMillis() {
+    HttpConnections.timeout(5);
+
+    assertEquals("5000", System.getProperty(CONNECT_TIMEOUT));
+    assertEquals("5000", System.getProperty(READ_TIMEOUT));
+  }
+
+  @Test
+  public void testThatPropertyGivenToJvmIsNotOverridden() {
+    System.setProperty(READ_TIMEOUT, "3000");
+
+    HttpConnections.timeout(5);
+
+    assertEquals("5000", System.getProperty(CONNECT_TIMEOUT));
+    assertEquals("3000", System.getProperty(READ_TIMEOUT));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatTimeoutMustBePositive() {
+    HttpConnections.timeout(0);
+  }
+
+  private static void restore(final String key, final String value) {
+    if (value == null) {
+      System.clearProperty(key);
+    } else {
+      System.setProperty(key, value);
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package se.bjurr.gitchangelog.main;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static se.bjurr.gitchangelog.api.GitChangelogApi.gitChangelogApiBuilder;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import se.bjurr.gitchangelog.api.model.Changelog;
+
+public class IntegrationDeadlineTest {
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final CountDownLatch release = new CountDownLatch(1);
+  private ExecutorService executor;
+  private HttpServer jira;
+
+  @Before
+  public void before() throws Exception {
+    this.executor =
+        Executors.newCachedThreadPool(
+            runnable -> {
+              final Thread thread = new Thread(runnable);
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.jira = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    this.jira.setExecutor(this.executor);
+    this.jira.createContext(
+        "/",
+        exchange -> {
+          try {
+            this.release.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          exchange.sendResponseHeaders(404, -1);
+          exchange.close();
+        });
+    this.jira.start();
+  }
+
+  @After
+  public void after() {
+    this.release.countDown();
+    this.jira.stop(0);
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  public void testThatFallbackIsUsedWhenDeadlineIsExceeded() throws Exception {
+    final ChangelogModel model =
+        IntegrationDeadline.resolve(
+            () -> {
+              Thread.sleep(60_000);
+              return TestChangelogs.changelog("with-integrations");
+            },
+            () -> TestChangelogs.changelog("without-integrations"),
+            Arrays.asList("Jira"),
+            1);
+
+    assertTrue(model.isIntegrationsIncomplete());
+    assertEquals(Arrays.asList("Jira"), model.getSkippedIntegrations());
+    assertEquals("without-integrations", model.getChangelog().getTags().get(0).getName());
+  }
+
+  @Test
+  public void testThatFallbackIsNotUsedWithinDeadline() throws Exception {
+    final ChangelogModel model =
+        IntegrationDeadline.resolve(
+            () -> TestChangelogs.changelog("with-integrations"),
+            () -> {
+              throw new AssertionError("Fallback should not be used");
+            },
+            Arrays.asList("Jira"),
+            10);
+
+    assertFalse(model.isIntegrationsIncomplete());
+    assertEquals(new ArrayList<>(), model.getSkippedIntegrations());
+    assertEquals("with-integrations", model.getChangelog().getTags().get(0).getName());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatDeadlineMustBePositive() throws Exception {
+    IntegrationDeadline.within(() -> TestChangelogs.changelog(), 0);
+  }
+
+  @Test
+  public void testThatIntegrationsAreReadFromSettings() {
+    assertEquals(
+        Arrays.asList("Jira", "GitLab"),
+        IntegrationDeadline.configuredIntegrations(
+            gitChangelogApiBuilder() //
+                .withJiraServer("https://jira.example.com") //
+                .withGitLabServer("https://gitlab.example.com") //
+                .getSettings()));
+  }
+
+  @Test
+  public void testThatChangelogIsWrittenWithoutIntegrationThatDoesNotRespond() throws Exception {
+    final File model = this.folder.newFile("model.json");
+
+    Main.main(
+        new String[] {
+          Main.PARAM_TO_REV,
+          "HEAD", //
+          "-ui",
+          "-je", //
+          Main.PARAM_JIRA_SERVER,
+          "http://127.0.0.1:" + this.jira.getAddress().getPort(), //
+          Main.PARAM_INTEGRATION_DEADLINE,
+          "1", //
+          Main.PARAM_EXPORT_MODEL,
+          model.getPath()
+        });
+
+    final ChangelogModel read = ChangelogModelFile.read(model);
+    final Changelog changelog = read.getChangelog();
+    assertTrue(read.isIntegrationsIncomplete());
+    assertEquals(Arrays.asList("Jira"), read.getSkippedIntegrations());
+    assertFalse(changelog.getCommits().isEmpty());
+  }
+}
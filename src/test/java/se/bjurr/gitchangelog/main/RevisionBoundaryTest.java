@@ -0,0 +1,64 @@
+package se.bjurr.gitchangelog.main;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static se.bjurr.gitchangelog.api.GitChangelogApi.gitChangelogApiBuilder;
+import static se.bjurr.gitchangelog.api.GitChangelogApiConstants.DEFAULT_DATEFORMAT;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RevisionBoundaryTest {
+  private Date cutoff;
+
+  @Before
+  public void before() throws Exception {
+    final List<Integer> commitTimes = new ArrayList<>();
+    try (Repository repository =
+            new FileRepositoryBuilder().findGitDir(new File(".")).readEnvironment().build();
+        RevWalk walk = new RevWalk(repository)) {
+      walk.markStart(walk.parseCommit(repository.resolve(Constants.HEAD)));
+      for (final RevCommit commit : walk) {
+        commitTimes.add(commit.getCommitTime());
+      }
+    }
+    this.cutoff = new Date(commitTimes.get(commitTimes.size() / 2) * 1000L);
+  }
+
+  @Test
+  public void testThatBoundaryIsFoundInThisRepository() throws Exception {
+    assertTrue(RevisionBoundary.olderThan(".", "HEAD", this.cutoff).isPresent());
+  }
+
+  @Test
+  public void testThatChangelogIsSameWithAndWithoutBoundary() throws Exception {
+    final String withoutBoundary =
+        gitChangelogApiBuilder() //
+            .withFromRepo(".") //
+            .withToRevision("HEAD") //
+            .withIgnoreCommitsOlderThan(this.cutoff) //
+            .render();
+
+    Main.recordSystemOutPrintln();
+    Main.main(
+        new String[] {
+          Main.PARAM_OUTPUT_STDOUT, //
+          Main.PARAM_TO_REV,
+          "HEAD", //
+          Main.PARAM_IGNORE_OLDER_PATTERN,
+          new SimpleDateFormat(DEFAULT_DATEFORMAT).format(this.cutoff)
+        });
+
+    assertEquals(withoutBoundary, Main.getSystemOutPrintln());
+  }
+}
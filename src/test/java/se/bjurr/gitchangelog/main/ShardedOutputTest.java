@@ -0,0 +1,120 @@
+package se.bjurr.gitchangelog.main;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import se.bjurr.gitchangelog.api.model.Changelog;
+
+public class ShardedOutputTest {
+  private static final String TEMPLATE = "{{#tags}}{{name}}{{/tags}} {{extended.version}}";
+  private static final String INDEX_TEMPLATE = "{{#shards}}{{file}} {{/shards}}";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private File directory;
+
+  @Before
+  public void before() {
+    this.directory = new File(this.folder.getRoot(), "changelog");
+  }
+
+  @Test
+  public void testThatUnchangedShardsAreNotRenderedAgain() throws Exception {
+    final Changelog changelog = TestChangelogs.changelog("1.1", "1.0");
+
+    assertEquals(2, this.write("1", TEMPLATE, changelog));
+    assertEquals(0, this.write("1", TEMPLATE, changelog));
+    assertEquals("1.0 1", this.read("1.0.md"));
+  }
+
+  @Test
+  public void testThatChangedExtendedVariablesRenderEveryShard() throws Exception {
+    final Changelog changelog = TestChangelogs.changelog("1.1", "1.0");
+    this.write("1", TEMPLATE, changelog);
+
+    assertEquals(2, this.write("2", TEMPLATE, changelog));
+    assertEquals("1.0 2", this.read("1.0.md"));
+  }
+
+  @Test
+  public void testThatChangedTemplateRendersEveryShard() throws Exception {
+    final Changelog changelog = TestChangelogs.changelog("1.1", "1.0");
+    this.write("1", TEMPLATE, changelog);
+
+    assertEquals(2, this.write("1", "Version " + TEMPLATE, changelog));
+    assertEquals("Version 1.0 1", this.read("1.0.md"));
+  }
+
+  @Test
+  public void testThatFileOfRemovedTagIsDeleted() throws Exception {
+    this.write("1", TEMPLATE, TestChangelogs.changelog("1.1", "1.0"));
+
+    this.write("1", TEMPLATE, TestChangelogs.changelog("1.1"));
+
+    assertTrue(new File(this.directory, "1.1.md").exists());
+    assertFalse(new File(this.directory, "1.0.md").exists());
+  }
+
+  @Test
+  public void testThatUntrackedFileIsKept() throws Exception {
+    this.write("1", TEMPLATE, TestChangelogs.changelog("1.1", "1.0"));
+    final File untracked = new File(this.directory, "notes.md");
+    Files.write(untracked.toPath(), "notes".getBytes(StandardCharsets.UTF_8));
+
+    this.write("1", TEMPLATE, TestChangelogs.changelog("1.1"));
+
+    assertTrue(untracked.exists());
+  }
+
+  @Test
+  public void testThatTagsGetDifferentFileNames() throws Exception {
+    this.write("1", TEMPLATE, TestChangelogs.changelog("a/b", "a_b", "index"));
+
+    assertEquals("a_b.md a_b-1.md index-1.md", this.read("index.md"));
+    assertEquals("a/b 1", this.read("a_b.md"));
+    assertEquals("a_b 1", this.read("a_b-1.md"));
+    assertEquals("index 1", this.read("index-1.md"));
+  }
+
+  @Test
+  public void testThatTagDoesNotOverwriteHashes() throws Exception {
+    final ShardedOutput output =
+        new ShardedOutput(this.renderer("1"), this.directory, ".json", StandardCharsets.UTF_8);
+    final Changelog changelog = TestChangelogs.changelog(".git-changelog-shards");
+
+    output.write(changelog, TEMPLATE, INDEX_TEMPLATE);
+
+    assertEquals(".git-changelog-shards-1.json", this.read("index.json"));
+    assertEquals(0, output.write(changelog, TEMPLATE, INDEX_TEMPLATE));
+  }
+
+  private int write(final String version, final String template, final Changelog changelog)
+      throws Exception {
+    return new ShardedOutput(this.renderer(version), this.directory, ".md", StandardCharsets.UTF_8)
+        .write(changelog, template, INDEX_TEMPLATE);
+  }
+
+  private ChangelogRenderer renderer(final String version) throws Exception {
+    final Map<String, Object> extended = new HashMap<>();
+    extended.put("version", version);
+    final Map<String, Object> extendedVariables = new HashMap<>();
+    extendedVariables.put("extended", extended);
+    return new ChangelogRenderer(null, ".hbs", new ArrayList<>(), extendedVariables);
+  }
+
+  private String read(final String fileName) throws Exception {
+    final File file = new File(this.directory, fileName);
+    return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+  }
+}
@@ -0,0 +1,61 @@
+package se.bjurr.gitchangelog.main;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TemplateOutputTest {
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testThatTemplateAndOutputAreParsed() {
+    final TemplateOutput templateOutput =
+        TemplateOutput.parse(" changelog.mustache = CHANGELOG.md ");
+
+    assertEquals("changelog.mustache", templateOutput.getTemplate());
+    assertEquals(new File("CHANGELOG.md"), templateOutput.getOutput());
+  }
+
+  @Test
+  public void testThatValueWithoutSeparatorIsNoPair() {
+    assertFalse(TemplateOutput.isTemplateOutput("changelog.mustache"));
+  }
+
+  @Test
+  public void testThatValueWithSeparatorIsPair() {
+    assertTrue(TemplateOutput.isTemplateOutput("changelog.mustache=CHANGELOG.md"));
+  }
+
+  @Test
+  public void testThatExistingTemplateWithSeparatorIsNoPair() throws Exception {
+    final File template = this.folder.newFile("a=b.mustache");
+
+    assertFalse(TemplateOutput.isTemplateOutput(template.getPath()));
+  }
+
+  @Test
+  public void testThatExistingTemplateWithSeparatorCanBeParsed() throws Exception {
+    final File template = this.folder.newFile("a=b.mustache");
+
+    final TemplateOutput templateOutput =
+        TemplateOutput.parse(template.getPath() + "=CHANGELOG.md");
+
+    assertEquals(template.getPath(), templateOutput.getTemplate());
+    assertEquals(new File("CHANGELOG.md"), templateOutput.getOutput());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatEmptyTemplateIsRejected() {
+    TemplateOutput.parse("=CHANGELOG.md");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatEmptyOutputIsRejected() {
+    TemplateOutput.parse("changelog.mustache=");
+  }
+}
@@ -0,0 +1,29 @@
+package se.bjurr.gitchangelog.main;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import se.bjurr.gitchangelog.api.model.Changelog;
+
+/** Changelogs with the given tags, without reading GIT. */
+final class TestChangelogs {
+  private TestChangelogs() {}
+
+  static Changelog changelog(final String... tagNames) {
+    final JsonArray tags = new JsonArray();
+    for (final String tagName : tagNames) {
+      final JsonObject tag = new JsonObject();
+      tag.addProperty("name", tagName);
+      tag.add("commits", new JsonArray());
+      tag.add("authors", new JsonArray());
+      tag.add("issues", new JsonArray());
+      tag.add("issueTypes", new JsonArray());
+      tags.add(tag);
+    }
+    final JsonObject changelog = new JsonObject();
+    changelog.addProperty("ownerName", "owner");
+    changelog.addProperty("repoName", "repo");
+    changelog.add("tags", tags);
+    return new Gson().fromJson(changelog, Changelog.class);
+  }
+}